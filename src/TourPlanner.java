@@ -0,0 +1,352 @@
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TourPlanner {
+    // Largest number of stops solved exactly with Held-Karp (2^n * n^2 work)
+    public static final int EXACT_LIMIT = 12;
+    // Longest segment moved as a block by Or-opt
+    private static final int OR_OPT_MAX_SEGMENT = 3;
+
+    // Result of a multi-stop plan: the stitched route plus solve statistics
+    public static class Tour {
+        private final Route route;
+        private final List<Location> visitOrder;
+        private final int stopCount;
+        private final boolean exact;
+        private final double baselineDistance;
+        private final long solveNanos;
+
+        public Tour(Route route, List<Location> visitOrder, int stopCount, boolean exact,
+                    double baselineDistance, long solveNanos) {
+            this.route = route;
+            this.visitOrder = new ArrayList<>(visitOrder);
+            this.stopCount = stopCount;
+            this.exact = exact;
+            this.baselineDistance = baselineDistance;
+            this.solveNanos = solveNanos;
+        }
+
+        // Getters
+        public Route getRoute() { return route; }
+        public List<Location> getVisitOrder() { return new ArrayList<>(visitOrder); }
+        public int getStopCount() { return stopCount; }
+        public boolean isExact() { return exact; }
+        public double getBaselineDistance() { return baselineDistance; }
+        public double getSolveTimeMillis() { return solveNanos / 1_000_000.0; }
+
+        // Percentage saved compared with the greedy nearest-neighbour order
+        public double getImprovement() {
+            if (baselineDistance <= 0) return 0;
+            return (baselineDistance - route.getDistance()) / baselineDistance * 100;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Tour (%d stops, %s): %s\nDistance: %.2fm (nearest-neighbour %.2fm, %.1f%% shorter), Time: %.2f min\nSolved in %.3f ms",
+                    stopCount,
+                    exact ? "optimal" : "2-opt/Or-opt",
+                    visitOrder.stream().map(Location::getName).collect(Collectors.toList()),
+                    route.getDistance(),
+                    baselineDistance,
+                    getImprovement(),
+                    route.getTime(),
+                    getSolveTimeMillis());
+        }
+    }
+
+    private final PathFinder pathFinder;
+    private final int searches;
+
+    public TourPlanner(PathFinder pathFinder) {
+        this(pathFinder, Runtime.getRuntime().availableProcessors());
+    }
+
+    // searches counts every local search run, including the unperturbed first one
+    public TourPlanner(PathFinder pathFinder, int searches) {
+        this.pathFinder = pathFinder;
+        this.searches = Math.max(1, searches);
+    }
+
+    // All known locations carrying the given tag, e.g. "hostel"
+    public List<Location> locationsWithTag(String tag) {
+        if (tag == null) return List.of();
+
+        return pathFinder.getGraph().keySet().stream()
+                .filter(loc -> loc.getTags().stream().anyMatch(t -> t.equalsIgnoreCase(tag)))
+                .sorted(Comparator.comparing(Location::getName))
+                .collect(Collectors.toList());
+    }
+
+    // Plans a route from start through every stop, optionally returning to start.
+    // Returns null if any stop cannot be reached, matching getPrecomputedPath.
+    // One-way distances are supported; 2-opt is skipped when legs differ by direction.
+    public Tour planTour(Location start, Collection<Location> stops, boolean returnToStart) {
+        if (start == null || stops == null || pathFinder.getPrecomputedPath(start, start) == null) {
+            return null;
+        }
+        long began = System.nanoTime();
+
+        // Node 0 is the start; duplicates and the start itself are dropped from the stops
+        List<Location> nodes = new ArrayList<>();
+        nodes.add(start);
+        for (Location stop : new LinkedHashSet<>(stops)) {
+            if (stop != null && !stop.equals(start)) nodes.add(stop);
+        }
+
+        double[][] dist = buildMatrix(nodes);
+        if (dist == null) return null;
+
+        int[] nearest = nearestNeighbour(dist);
+        double baseline = tourCost(nearest, dist, returnToStart);
+        boolean exact = nodes.size() - 1 <= EXACT_LIMIT;
+        int[] order = exact ? heldKarp(dist, returnToStart) : localSearch(nearest, dist, returnToStart);
+
+        List<Location> visitOrder = new ArrayList<>();
+        for (int node : order) visitOrder.add(nodes.get(node));
+        if (returnToStart && visitOrder.size() > 1) visitOrder.add(start);
+
+        Route route = stitch(visitOrder);
+        return new Tour(route, visitOrder, nodes.size() - 1, exact, baseline, System.nanoTime() - began);
+    }
+
+    // Sub-matrix of shortest-path distances between the chosen nodes
+    private double[][] buildMatrix(List<Location> nodes) {
+        int n = nodes.size();
+        double[][] dist = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                Route leg = pathFinder.getPrecomputedPath(nodes.get(i), nodes.get(j));
+                if (leg == null) return null;
+                dist[i][j] = leg.getDistance();
+            }
+        }
+        return dist;
+    }
+
+    // Joins the precomputed legs between consecutive stops into one Route
+    private Route stitch(List<Location> visitOrder) {
+        List<Location> path = new ArrayList<>();
+        path.add(visitOrder.get(0));
+        double distance = 0;
+        double time = 0;
+        for (int i = 1; i < visitOrder.size(); i++) {
+            Route leg = pathFinder.getPrecomputedPath(visitOrder.get(i - 1), visitOrder.get(i));
+            List<Location> legPath = leg.getPath();
+            path.addAll(legPath.subList(1, legPath.size()));
+            distance += leg.getDistance();
+            time += leg.getTime();
+        }
+        return new Route(path, distance, time);
+    }
+
+    // Held-Karp dynamic programming over subsets of stops; exact for small sets
+    private static int[] heldKarp(double[][] dist, boolean returnToStart) {
+        int stops = dist.length - 1;
+        if (stops == 0) return new int[] { 0 };
+
+        int full = (1 << stops) - 1;
+        double[][] cost = new double[1 << stops][stops];
+        int[][] parent = new int[1 << stops][stops];
+        for (double[] row : cost) Arrays.fill(row, Double.POSITIVE_INFINITY);
+        for (int j = 0; j < stops; j++) {
+            cost[1 << j][j] = dist[0][j + 1];
+            parent[1 << j][j] = -1;
+        }
+
+        for (int mask = 1; mask <= full; mask++) {
+            for (int last = 0; last < stops; last++) {
+                if ((mask & (1 << last)) == 0 || cost[mask][last] == Double.POSITIVE_INFINITY) continue;
+                for (int next = 0; next < stops; next++) {
+                    if ((mask & (1 << next)) != 0) continue;
+                    int nextMask = mask | (1 << next);
+                    double candidate = cost[mask][last] + dist[last + 1][next + 1];
+                    if (candidate < cost[nextMask][next]) {
+                        cost[nextMask][next] = candidate;
+                        parent[nextMask][next] = last;
+                    }
+                }
+            }
+        }
+
+        int best = 0;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int last = 0; last < stops; last++) {
+            double total = cost[full][last] + (returnToStart ? dist[last + 1][0] : 0);
+            if (total < bestCost) {
+                bestCost = total;
+                best = last;
+            }
+        }
+
+        // Walk the parent pointers back from the final stop
+        int[] order = new int[stops + 1];
+        int mask = full;
+        for (int pos = stops; pos >= 1; pos--) {
+            order[pos] = best + 1;
+            int prev = parent[mask][best];
+            mask &= ~(1 << best);
+            best = prev;
+        }
+        return order;
+    }
+
+    // Greedy starting order: always walk to the closest unvisited stop
+    private static int[] nearestNeighbour(double[][] dist) {
+        int n = dist.length;
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int pos = 1; pos < n; pos++) {
+            int from = order[pos - 1];
+            int closest = -1;
+            for (int j = 1; j < n; j++) {
+                if (!visited[j] && (closest < 0 || dist[from][j] < dist[from][closest])) {
+                    closest = j;
+                }
+            }
+            order[pos] = closest;
+            visited[closest] = true;
+        }
+        return order;
+    }
+
+    // Runs 2-opt/Or-opt from several perturbed starts in parallel and keeps the best
+    private int[] localSearch(int[] initial, double[][] dist, boolean returnToStart) {
+        boolean symmetric = isSymmetric(dist);
+        return IntStream.range(0, searches)
+                .parallel()
+                .mapToObj(seed -> {
+                    int[] order = seed == 0 ? initial.clone() : perturb(initial, new Random(seed));
+                    improve(order, dist, returnToStart, symmetric);
+                    return order;
+                })
+                .min(Comparator.comparingDouble((int[] order) -> tourCost(order, dist, returnToStart)))
+                .orElse(initial);
+    }
+
+    // Double-bridge kick that keeps the start fixed at position 0
+    private static int[] perturb(int[] order, Random random) {
+        int n = order.length;
+        if (n < 5) return order.clone();
+
+        int[] cuts = random.ints(1, n).distinct().limit(3).sorted().toArray();
+        if (cuts.length < 3) return order.clone();
+
+        int[] result = new int[n];
+        int pos = 0;
+        pos = copy(order, 0, cuts[0], result, pos);
+        pos = copy(order, cuts[1], cuts[2], result, pos);
+        pos = copy(order, cuts[0], cuts[1], result, pos);
+        copy(order, cuts[2], n, result, pos);
+        return result;
+    }
+
+    private static int copy(int[] src, int from, int to, int[] dest, int pos) {
+        System.arraycopy(src, from, dest, pos, to - from);
+        return pos + to - from;
+    }
+
+    // Applies improving 2-opt and Or-opt moves until neither finds a gain
+    private static void improve(int[] order, double[][] dist, boolean returnToStart, boolean symmetric) {
+        boolean improved = true;
+        while (improved) {
+            improved = (symmetric && twoOpt(order, dist, returnToStart)) | orOpt(order, dist, returnToStart);
+        }
+    }
+
+    // 2-opt reverses legs, so its gain only holds when each leg costs the same both ways
+    private static boolean isSymmetric(double[][] dist) {
+        for (int i = 0; i < dist.length; i++) {
+            for (int j = i + 1; j < dist.length; j++) {
+                if (dist[i][j] != dist[j][i]) return false;
+            }
+        }
+        return true;
+    }
+
+    // Reverses order[i..j] whenever that shortens the tour; needs symmetric distances
+    private static boolean twoOpt(int[] order, double[][] dist, boolean returnToStart) {
+        int n = order.length;
+        boolean improved = false;
+        for (int i = 1; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int before = order[i - 1];
+                int after = successor(order, j, returnToStart);
+                double delta = dist[before][order[j]] + edge(order[i], after, dist)
+                        - dist[before][order[i]] - edge(order[j], after, dist);
+                if (delta < -1e-9) {
+                    reverse(order, i, j);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    // Moves a run of up to OR_OPT_MAX_SEGMENT stops to a better position
+    private static boolean orOpt(int[] order, double[][] dist, boolean returnToStart) {
+        int n = order.length;
+        boolean improved = false;
+        for (int length = 1; length <= OR_OPT_MAX_SEGMENT; length++) {
+            for (int i = 1; i + length <= n; i++) {
+                int last = i + length - 1;
+                int before = order[i - 1];
+                int after = successor(order, last, returnToStart);
+                double removed = dist[before][order[i]] + edge(order[last], after, dist)
+                        - edge(before, after, dist);
+
+                for (int k = 0; k < n; k++) {
+                    if (k >= i - 1 && k <= last) continue;
+                    int target = successor(order, k, returnToStart);
+                    double added = dist[order[k]][order[i]] + edge(order[last], target, dist)
+                            - edge(order[k], target, dist);
+                    if (added - removed < -1e-9) {
+                        moveSegment(order, i, length, k);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    // Places order[i..i+length) directly after the element currently at position k
+    private static void moveSegment(int[] order, int i, int length, int k) {
+        int[] segment = Arrays.copyOfRange(order, i, i + length);
+        if (k < i) {
+            System.arraycopy(order, k + 1, order, k + 1 + length, i - k - 1);
+            System.arraycopy(segment, 0, order, k + 1, length);
+        } else {
+            System.arraycopy(order, i + length, order, i, k - i - length + 1);
+            System.arraycopy(segment, 0, order, k - length + 1, length);
+        }
+    }
+
+    private static void reverse(int[] order, int i, int j) {
+        while (i < j) {
+            int tmp = order[i];
+            order[i++] = order[j];
+            order[j--] = tmp;
+        }
+    }
+
+    // Node after position pos, or -1 at the open end of a one-way tour
+    private static int successor(int[] order, int pos, boolean returnToStart) {
+        if (pos + 1 < order.length) return order[pos + 1];
+        return returnToStart ? order[0] : -1;
+    }
+
+    private static double edge(int from, int to, double[][] dist) {
+        return from < 0 || to < 0 ? 0 : dist[from][to];
+    }
+
+    private static double tourCost(int[] order, double[][] dist, boolean returnToStart) {
+        double total = 0;
+        for (int pos = 0; pos < order.length; pos++) {
+            total += edge(order[pos], successor(order, pos, returnToStart), dist);
+        }
+        return total;
+    }
+}